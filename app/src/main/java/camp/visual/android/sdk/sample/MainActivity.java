@@ -20,8 +20,16 @@ import androidx.core.content.ContextCompat;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import camp.visual.android.sdk.sample.session.ProfileSessionManager;
+import camp.visual.android.sdk.sample.session.ProfileSessionManager.SwitchResult;
+import camp.visual.android.sdk.sample.session.UserProfile;
 import camp.visual.android.sdk.sample.view.CalibrationViewer;
-import camp.visual.android.sdk.sample.view.PointView;
+import camp.visual.android.sdk.sample.view.overlay.FixationLayer;
+import camp.visual.android.sdk.sample.view.overlay.GazeDotLayer;
+import camp.visual.android.sdk.sample.view.overlay.GazeOverlayView;
+import camp.visual.android.sdk.sample.view.overlay.HeatmapLayer;
+import camp.visual.android.sdk.sample.view.overlay.MetricsHudLayer;
+import camp.visual.android.sdk.sample.view.overlay.TrailLayer;
 import camp.visual.eyedid.gazetracker.GazeTracker;
 import camp.visual.eyedid.gazetracker.callback.CalibrationCallback;
 import camp.visual.eyedid.gazetracker.callback.InitializationCallback;
@@ -34,8 +42,10 @@ import camp.visual.eyedid.gazetracker.metrics.BlinkInfo;
 import camp.visual.eyedid.gazetracker.metrics.FaceInfo;
 import camp.visual.eyedid.gazetracker.metrics.GazeInfo;
 import camp.visual.eyedid.gazetracker.metrics.UserStatusInfo;
+import camp.visual.eyedid.gazetracker.metrics.state.EyeMovementState;
 import camp.visual.eyedid.gazetracker.metrics.state.TrackingState;
 import camp.visual.eyedid.gazetracker.util.ViewLayoutChecker;
+import java.util.Arrays;
 
 public class MainActivity extends AppCompatActivity {
   private GazeTracker gazeTracker;
@@ -45,23 +55,29 @@ public class MainActivity extends AppCompatActivity {
       Manifest.permission.CAMERA
   };
   private final int REQ_PERMISSION = 1000;
+  // Operators sharing this device, switched in order by the switch user button
+  private final String[] USER_IDS = new String[]{"operator 1", "operator 2", "operator 3"};
+  private final int MAX_PROFILES = 8;
 
   private View layoutProgress;
-  private PointView viewPoint;
+  private GazeOverlayView viewOverlay;
   private boolean skipProgress = false;
-  private Button btnStartTracking, btnStopTracking, btnStartCalibration;
+  private Button btnStartTracking, btnStopTracking, btnStartCalibration, btnSwitchUser;
   private CalibrationViewer viewCalibration;
   private final ViewLayoutChecker viewLayoutChecker = new ViewLayoutChecker();
   private Handler backgroundHandler;
   private final HandlerThread backgroundThread = new HandlerThread("background");
+  private final ProfileSessionManager sessionManager = new ProfileSessionManager(MAX_PROFILES,
+      calibrationData -> gazeTracker != null && gazeTracker.setCalibrationData(calibrationData));
 
   private final TrackingCallback trackingCallback = new TrackingCallback() {
     @Override
     public void onMetrics(long timestamp, GazeInfo gazeInfo, FaceInfo faceInfo, BlinkInfo blinkInfo,
         UserStatusInfo userStatusInfo) {
-      if (gazeInfo.trackingState == TrackingState.SUCCESS) {
-        viewPoint.setPosition(gazeInfo.x, gazeInfo.y);
-      }
+      // Called on the tracking thread, the overlay renders on its own thread
+      viewOverlay.publish(timestamp, gazeInfo.x, gazeInfo.y,
+          gazeInfo.trackingState == TrackingState.SUCCESS,
+          gazeInfo.eyeMovementState == EyeMovementState.FIXATION);
     }
 
     @Override
@@ -96,14 +112,22 @@ public class MainActivity extends AppCompatActivity {
 
     @Override
     public void onCalibrationFinished(double[] calibrationData) {
-      // When calibration is finished, calibration data is stored to SharedPreference
+      // Keep the calibration data in the profile of the operator being calibrated,
+      // switching back to this operator applies it without calibrating again
+      if (!sessionManager.saveCalibration(calibrationData)) {
+        Log.w("MainActivity", "calibration not stored, no user profile");
+      }
       hideCalibrationView();
       showToast("calibrationFinished", true);
     }
 
     @Override
     public void onCalibrationCanceled(double[] doubles) {
-      showToast("calibrationCanceled", true);
+      // Stay with the previous operator when a switch to an uncalibrated one is abandoned
+      SwitchResult result = sessionManager.cancelCalibration();
+      hideCalibrationView();
+      showToast("calibrationCanceled" + describeActiveUser(result),
+          result != SwitchResult.APPLY_FAILED);
     }
   };
 
@@ -116,6 +140,7 @@ public class MainActivity extends AppCompatActivity {
         btnStartTracking.setEnabled(false);
         btnStopTracking.setEnabled(true);
         btnStartCalibration.setEnabled(true);
+        btnSwitchUser.setEnabled(true);
       });
 
     }
@@ -124,10 +149,13 @@ public class MainActivity extends AppCompatActivity {
     public void onStopped(StatusErrorType error) {
       // isTracking false
       // When if camera stream stopping
+      // Drop the last gaze frame so nothing stays on screen as if tracking were live
+      viewOverlay.clear();
       runOnUiThread(() -> {
         btnStartTracking.setEnabled(true);
         btnStopTracking.setEnabled(false);
         btnStartCalibration.setEnabled(false);
+        btnSwitchUser.setEnabled(false);
       });
       if (error != StatusErrorType.ERROR_NONE) {
         if (error == StatusErrorType.ERROR_CAMERA_START) {// When if camera stream can't start
@@ -150,6 +178,8 @@ public class MainActivity extends AppCompatActivity {
           gazeTracker.stopTracking();
         } else if (v == btnStartCalibration) {
           startCalibration();
+        } else if (v == btnSwitchUser) {
+          switchUser();
         }
       }
     }
@@ -179,6 +209,8 @@ public class MainActivity extends AppCompatActivity {
       return insets;
     });
     initViews();
+    // The first operator owns any calibration run before the user is switched
+    sessionManager.switchTo(USER_IDS[0]);
     checkPermission(); // needs camera permission.
     backgroundThread.start();
     backgroundHandler = new Handler(backgroundThread.getLooper());
@@ -189,19 +221,26 @@ public class MainActivity extends AppCompatActivity {
     txtSDKVersion.setText(GazeTracker.getVersionName());
     layoutProgress = findViewById(R.id.layout_progress);
     viewCalibration = findViewById(R.id.view_calibration);
-    viewPoint = findViewById(R.id.view_point);
+    viewOverlay = findViewById(R.id.view_overlay);
+    viewOverlay.addLayer(new HeatmapLayer());
+    viewOverlay.addLayer(new TrailLayer());
+    viewOverlay.addLayer(new FixationLayer());
+    viewOverlay.addLayer(new GazeDotLayer());
+    viewOverlay.addLayer(new MetricsHudLayer());
     btnStartTracking = findViewById(R.id.btn_start_tracking);
     btnStartTracking.setOnClickListener(onClickListener);
     btnStopTracking = findViewById(R.id.btn_stop_tracking);
     btnStopTracking.setOnClickListener(onClickListener);
     btnStartCalibration = findViewById(R.id.btn_start_calibration);
     btnStartCalibration.setOnClickListener(onClickListener);
+    btnSwitchUser = findViewById(R.id.btn_switch_user);
+    btnSwitchUser.setOnClickListener(onClickListener);
     btnStartTracking.setEnabled(false);
     btnStopTracking.setEnabled(false);
     btnStartCalibration.setEnabled(false);
-    viewPoint.setPosition(-999,-999);
-    viewLayoutChecker.setOverlayView(viewPoint, (x, y) -> {
-      viewPoint.setOffset(x, y);
+    btnSwitchUser.setEnabled(false);
+    viewLayoutChecker.setOverlayView(viewOverlay, (x, y) -> {
+      viewOverlay.setOffset(x, y);
       viewCalibration.setOffset(x, y);
     });
   }
@@ -278,7 +317,8 @@ public class MainActivity extends AppCompatActivity {
     runOnUiThread(() -> {
       viewCalibration.setVisibility(View.INVISIBLE);
       btnStartCalibration.setEnabled(true);
-      viewPoint.setVisibility(View.VISIBLE);
+      btnSwitchUser.setEnabled(true);
+      viewOverlay.setVisibility(View.VISIBLE);
     });
   }
 
@@ -328,12 +368,51 @@ public class MainActivity extends AppCompatActivity {
       runOnUiThread(() -> {
         viewCalibration.setPointPosition(-9999, -9999);
         viewCalibration.setEnableText(true);
-        viewPoint.setVisibility(View.INVISIBLE);
+        viewOverlay.setVisibility(View.INVISIBLE);
         btnStartCalibration.setEnabled(false);
+        btnSwitchUser.setEnabled(false);
           });
 
     } else {
-      showToast("calibration start fail", false);
+      SwitchResult result = sessionManager.cancelCalibration();
+      showToast("calibration start fail" + describeActiveUser(result), false);
+    }
+  }
+
+  // Hot swaps to the next operator's profile without re-initializing the tracker
+  private void switchUser() {
+    if (gazeTracker == null) return;
+    UserProfile current = sessionManager.getActiveProfile();
+    int index = current != null ? Arrays.asList(USER_IDS).indexOf(current.getUserId()) : -1;
+    String userId = USER_IDS[(index + 1) % USER_IDS.length];
+    SwitchResult result = sessionManager.switchTo(userId);
+    long latencyMicros = sessionManager.getLastSwitchNanos() / 1000;
+    Log.d("MainActivity", "switch to " + userId + " " + result + " in " + latencyMicros + "us"
+        + " (avg " + sessionManager.getAverageSwitchNanos() / 1000 + "us, max "
+        + sessionManager.getMaxSwitchNanos() / 1000 + "us)");
+
+    if (result == SwitchResult.RESTORED) {
+      showToast(userId + " restored in " + latencyMicros + "us", true);
+    } else if (result == SwitchResult.NEEDS_CALIBRATION) {
+      // The previous operator stays active until this calibration finishes
+      showToast(userId + " is not calibrated yet", true);
+      startCalibration();
+    } else {
+      showToast(userId + " calibration could not be applied", false);
+    }
+  }
+
+  // Describes which operator the tracker is left with after a calibration was abandoned
+  private String describeActiveUser(SwitchResult result) {
+    UserProfile profile = sessionManager.getActiveProfile();
+    if (profile == null) {
+      return "";
+    } else if (result == SwitchResult.RESTORED) {
+      return ", back to " + profile.getUserId();
+    } else if (result == SwitchResult.NEEDS_CALIBRATION) {
+      return ", " + profile.getUserId() + " is not calibrated yet";
+    } else {
+      return ", " + profile.getUserId() + " calibration could not be restored";
     }
   }
 }
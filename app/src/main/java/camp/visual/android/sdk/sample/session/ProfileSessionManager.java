@@ -0,0 +1,215 @@
+package camp.visual.android.sdk.sample.session;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a bounded pool of {@link UserProfile}s and hot swaps the active one.
+ * <p>
+ * Switching applies the stored calibration data to the running tracker through
+ * {@link CalibrationTarget} instead of re-initializing it. A user without stored calibration
+ * becomes the pending profile instead: the previous profile stays active, and its calibration
+ * stays applied, until {@link #saveCalibration} completes the switch or
+ * {@link #cancelCalibration} abandons it. When the pool is full the least recently
+ * switched-to profile is evicted, the active and pending profiles are never evicted.
+ * <p>
+ * Has no Android dependencies so it can be tested on the JVM.
+ */
+public class ProfileSessionManager {
+
+  // Receives the calibration data of the profile being switched to, usually the GazeTracker
+  public interface CalibrationTarget {
+    boolean applyCalibrationData(double[] calibrationData);
+  }
+
+  // Source of monotonic time for switch latency, System::nanoTime outside of tests
+  public interface Clock {
+    long nanoTime();
+  }
+
+  public enum SwitchResult {
+    // Stored calibration was applied, the user can start right away
+    RESTORED,
+    // The user has no stored calibration and needs to calibrate before becoming active
+    NEEDS_CALIBRATION,
+    // Stored calibration exists but the tracker rejected it, the previous profile stays active
+    APPLY_FAILED
+  }
+
+  private final int maxProfiles;
+  private final CalibrationTarget target;
+  private final Clock clock;
+  // Access ordered, the first entry is the least recently used profile
+  private final LinkedHashMap<String, UserProfile> profiles;
+  // Serializes switches so tracker calls and profile state change in the same order.
+  // Profile state itself is guarded by this.
+  private final Object switchLock = new Object();
+  private UserProfile activeProfile;
+  private UserProfile pendingProfile;
+
+  // Statistics of switches that restored a calibration
+  private long switchCount = 0;
+  private long lastSwitchNanos = 0, maxSwitchNanos = 0, totalSwitchNanos = 0;
+
+  public ProfileSessionManager(int maxProfiles, CalibrationTarget target) {
+    this(maxProfiles, target, System::nanoTime);
+  }
+
+  public ProfileSessionManager(int maxProfiles, CalibrationTarget target, Clock clock) {
+    if (maxProfiles <= 0) {
+      throw new IllegalArgumentException("maxProfiles must be positive");
+    }
+    if (target == null || clock == null) {
+      throw new IllegalArgumentException("target and clock must not be null");
+    }
+    this.maxProfiles = maxProfiles;
+    this.target = target;
+    this.clock = clock;
+    this.profiles = new LinkedHashMap<>(maxProfiles + 1, 0.75f, true);
+  }
+
+  /**
+   * Switches to {@code userId}, creating its profile when unknown, and applies its stored
+   * calibration to the tracker. An uncalibrated user becomes active right away only when
+   * there is no calibrated profile to keep, otherwise it is left pending until calibrated.
+   * Only switches that restore a calibration are recorded in the switch statistics, since
+   * they are the only ones that swap the tracker state.
+   */
+  public SwitchResult switchTo(String userId) {
+    synchronized (switchLock) {
+      long start = clock.nanoTime();
+
+      UserProfile profile;
+      double[] calibrationData;
+      synchronized (this) {
+        profile = profiles.get(userId);
+        if (profile == null) {
+          profile = new UserProfile(userId);
+          profiles.put(userId, profile);
+        }
+        pendingProfile = null;
+
+        calibrationData = profile.getCalibrationData();
+        if (calibrationData == null) {
+          if (activeProfile == null || activeProfile == profile) {
+            activeProfile = profile;
+          } else {
+            pendingProfile = profile;
+          }
+          evictIfNeeded();
+          return SwitchResult.NEEDS_CALIBRATION;
+        }
+      }
+
+      // The tracker call can take a while, keep it out of the monitor the getters use
+      boolean isApplied = target.applyCalibrationData(calibrationData);
+
+      synchronized (this) {
+        if (!isApplied) {
+          return SwitchResult.APPLY_FAILED;
+        }
+        activeProfile = profile;
+        evictIfNeeded();
+        recordSwitch(clock.nanoTime() - start);
+        return SwitchResult.RESTORED;
+      }
+    }
+  }
+
+  /**
+   * Stores calibration data from onCalibrationFinished in the pending profile, which then
+   * becomes active, or in the active profile when no switch is pending.
+   *
+   * @return false when there is no profile to store the data in
+   */
+  public synchronized boolean saveCalibration(double[] calibrationData) {
+    UserProfile profile = pendingProfile != null ? pendingProfile : activeProfile;
+    if (profile == null || calibrationData == null) {
+      return false;
+    }
+    profile.setCalibrationData(calibrationData);
+    activeProfile = profile;
+    pendingProfile = null;
+    return true;
+  }
+
+  /**
+   * Abandons a pending switch after calibration was canceled or could not start, and applies
+   * the active profile's calibration again so the tracker matches the active user.
+   *
+   * @return {@link SwitchResult#RESTORED} when the active calibration was applied again,
+   * {@link SwitchResult#NEEDS_CALIBRATION} when there is no active calibration to apply and
+   * {@link SwitchResult#APPLY_FAILED} when the tracker rejected it
+   */
+  public SwitchResult cancelCalibration() {
+    synchronized (switchLock) {
+      double[] calibrationData;
+      synchronized (this) {
+        pendingProfile = null;
+        calibrationData = activeProfile != null ? activeProfile.getCalibrationData() : null;
+      }
+      if (calibrationData == null) {
+        return SwitchResult.NEEDS_CALIBRATION;
+      }
+      return target.applyCalibrationData(calibrationData)
+          ? SwitchResult.RESTORED : SwitchResult.APPLY_FAILED;
+    }
+  }
+
+  public synchronized UserProfile getActiveProfile() {
+    return activeProfile;
+  }
+
+  // Uncalibrated profile waiting for calibration before it becomes active, or null
+  public synchronized UserProfile getPendingProfile() {
+    return pendingProfile;
+  }
+
+  // Looks up a profile without changing its eviction order
+  public synchronized UserProfile peekProfile(String userId) {
+    for (UserProfile profile : profiles.values()) {
+      if (profile.getUserId().equals(userId)) {
+        return profile;
+      }
+    }
+    return null;
+  }
+
+  public synchronized int getProfileCount() {
+    return profiles.size();
+  }
+
+  public synchronized long getSwitchCount() {
+    return switchCount;
+  }
+
+  public synchronized long getLastSwitchNanos() {
+    return lastSwitchNanos;
+  }
+
+  public synchronized long getMaxSwitchNanos() {
+    return maxSwitchNanos;
+  }
+
+  public synchronized long getAverageSwitchNanos() {
+    return switchCount == 0 ? 0 : totalSwitchNanos / switchCount;
+  }
+
+  private void evictIfNeeded() {
+    Iterator<Map.Entry<String, UserProfile>> iterator = profiles.entrySet().iterator();
+    while (profiles.size() > maxProfiles && iterator.hasNext()) {
+      UserProfile profile = iterator.next().getValue();
+      if (profile != activeProfile && profile != pendingProfile) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void recordSwitch(long elapsedNanos) {
+    switchCount++;
+    lastSwitchNanos = elapsedNanos;
+    maxSwitchNanos = Math.max(maxSwitchNanos, elapsedNanos);
+    totalSwitchNanos += elapsedNanos;
+  }
+}
@@ -0,0 +1,30 @@
+package camp.visual.android.sdk.sample.session;
+
+/**
+ * Per-user state restored when switching between operators on a shared device.
+ * Calibration data is copied in and out so callers can not mutate the stored copy.
+ */
+public class UserProfile {
+  private final String userId;
+  private double[] calibrationData;
+
+  public UserProfile(String userId) {
+    if (userId == null) {
+      throw new IllegalArgumentException("userId must not be null");
+    }
+    this.userId = userId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  // Returns a copy of the stored calibration data, or null when not calibrated yet
+  public synchronized double[] getCalibrationData() {
+    return calibrationData == null ? null : calibrationData.clone();
+  }
+
+  public synchronized void setCalibrationData(double[] calibrationData) {
+    this.calibrationData = calibrationData == null ? null : calibrationData.clone();
+  }
+}
@@ -0,0 +1,138 @@
+package camp.visual.android.sdk.sample.view;
+
+/**
+ * Fixed size circular buffer of recent gaze points used to draw a fading trail.
+ * <p>
+ * Points are stored in primitive arrays allocated once in the constructor. {@link #prepare}
+ * lays the live points out oldest first in a flat {@code x, y} array and groups them into
+ * {@link #ALPHA_LEVELS} contiguous ranges by age, so a trail of any length is drawn with
+ * one {@code Canvas.drawPoints} call per alpha level. Nothing is allocated after construction.
+ * Not thread safe.
+ */
+public class GazeTrail {
+
+  // Number of alpha steps, level 0 is the oldest and most transparent
+  public static final int ALPHA_LEVELS = 4;
+
+  private final int capacity;
+  private final long[] timestamps;
+  private final float[] coords;
+  private int head = 0, size = 0;
+  private long durationMs;
+
+  // Output of prepare(), offsets and counts are in floats to match Canvas.drawPoints
+  private final float[] points;
+  private final int[] levelOffsets = new int[ALPHA_LEVELS];
+  private final int[] levelCounts = new int[ALPHA_LEVELS];
+
+  public GazeTrail(int capacity, long durationMs) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.timestamps = new long[capacity];
+    this.coords = new float[capacity * 2];
+    this.points = new float[capacity * 2];
+    setDuration(durationMs);
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getDuration() {
+    return durationMs;
+  }
+
+  public void setDuration(long durationMs) {
+    if (durationMs <= 0) {
+      throw new IllegalArgumentException("duration must be positive");
+    }
+    this.durationMs = durationMs;
+  }
+
+  // Appends a point, overwriting the oldest one when the buffer is full
+  public void add(long timestamp, float x, float y) {
+    int index = (head + size) % capacity;
+    if (size == capacity) {
+      head = (head + 1) % capacity;
+    } else {
+      size++;
+    }
+    timestamps[index] = timestamp;
+    coords[index * 2] = x;
+    coords[index * 2 + 1] = y;
+  }
+
+  public void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  // Number of points currently buffered, including ones not yet expired by prepare()
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Drops points older than the trail duration relative to {@code now}, then fills
+   * {@link #getPoints()} and the alpha level ranges.
+   *
+   * @return number of points laid out
+   */
+  public int prepare(long now) {
+    while (size > 0 && now - timestamps[head] >= durationMs) {
+      head = (head + 1) % capacity;
+      size--;
+    }
+
+    for (int level = 0; level < ALPHA_LEVELS; level++) {
+      levelOffsets[level] = 0;
+      levelCounts[level] = 0;
+    }
+
+    int level = 0;
+    for (int i = 0; i < size; i++) {
+      int index = (head + i) % capacity;
+      points[i * 2] = coords[index * 2];
+      points[i * 2 + 1] = coords[index * 2 + 1];
+
+      // Points are ordered oldest first, so levels only ever grow along the array
+      int pointLevel = levelFor(now - timestamps[index]);
+      while (level < pointLevel) {
+        level++;
+        levelOffsets[level] = i * 2;
+      }
+      levelCounts[level] += 2;
+    }
+    for (int l = level + 1; l < ALPHA_LEVELS; l++) {
+      levelOffsets[l] = size * 2;
+    }
+    return size;
+  }
+
+  public float[] getPoints() {
+    return points;
+  }
+
+  public int getLevelOffset(int level) {
+    return levelOffsets[level];
+  }
+
+  public int getLevelCount(int level) {
+    return levelCounts[level];
+  }
+
+  // Opacity multiplier of an alpha level in (0, 1]
+  public static float levelAlpha(int level) {
+    return (level + 1) / (float) ALPHA_LEVELS;
+  }
+
+  private int levelFor(long age) {
+    if (age <= 0) {
+      return ALPHA_LEVELS - 1;
+    }
+    int level = ALPHA_LEVELS - 1 - (int) (age * ALPHA_LEVELS / durationMs);
+    return Math.max(0, Math.min(ALPHA_LEVELS - 1, level));
+  }
+}
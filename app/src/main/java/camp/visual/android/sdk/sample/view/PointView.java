@@ -5,17 +5,34 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PointF;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.View;
 import androidx.annotation.Nullable;
 
+/**
+ * Standalone gaze point view with an optional fading trail. The sample app draws gaze with
+ * {@link camp.visual.android.sdk.sample.view.overlay.GazeOverlayView}, this view is kept for
+ * apps that only need a single point and trail without a render thread.
+ */
 public class PointView  extends View {
 
+  // Trail buffer sized for 2 seconds at 120 Hz
+  private static final int TRAIL_CAPACITY = 240;
+  private static final long DEFAULT_TRAIL_DURATION_MS = 1500;
+  private static final float TRAIL_POINT_SIZE = 12f;
+
   private final int pointColor = Color.rgb(0x84, 0x5e, 0xc2);
   private float offsetX, offsetY;
   private final PointF position = new PointF();
+  // Sample time of the last setPosition and the uptime it arrived at, used to keep aging
+  // the trail after samples stop
+  private long lastTimestamp, lastUptime;
 
   private Paint paint;
+  private Paint trailPaint;
+  private final GazeTrail trail = new GazeTrail(TRAIL_CAPACITY, DEFAULT_TRAIL_DURATION_MS);
+  private boolean isTrailEnabled = false;
 
   public PointView(Context context) {
     super(context);
@@ -42,23 +59,81 @@ public class PointView  extends View {
     paint = new Paint();
     paint.setColor(pointColor);
     paint.setStrokeWidth(2f);
+
+    trailPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    trailPaint.setColor(pointColor);
+    trailPaint.setStrokeWidth(TRAIL_POINT_SIZE);
+    trailPaint.setStrokeCap(Paint.Cap.ROUND);
   }
 
   public void setOffset(int x, int y) {
-    offsetX = x;
-    offsetY = y;
+    synchronized (trail) {
+      offsetX = x;
+      offsetY = y;
+    }
+  }
+
+  // Show a fading trail of the recent points passed to setPosition(timestamp, x, y)
+  public void setTrailEnabled(boolean isTrailEnabled) {
+    synchronized (trail) {
+      this.isTrailEnabled = isTrailEnabled;
+      trail.clear();
+    }
+    invalidate();
+  }
+
+  // Trail length in milliseconds of sample time, at most 2 seconds at 120 Hz fit in the buffer
+  public void setTrailDuration(long durationMs) {
+    synchronized (trail) {
+      trail.setDuration(durationMs);
+    }
+    invalidate();
   }
 
   public void setPosition(float x, float y) {
-    position.x = x - offsetX;
-    position.y = y - offsetY;
+    synchronized (trail) {
+      position.x = x - offsetX;
+      position.y = y - offsetY;
+    }
     invalidate();
   }
 
+  // Timestamp is the sample time in milliseconds and drives the trail fade.
+  // Safe to call from the tracking callback thread.
+  public void setPosition(long timestamp, float x, float y) {
+    synchronized (trail) {
+      lastTimestamp = timestamp;
+      lastUptime = SystemClock.uptimeMillis();
+      position.x = x - offsetX;
+      position.y = y - offsetY;
+      if (isTrailEnabled) {
+        trail.add(timestamp, position.x, position.y);
+      }
+    }
+    postInvalidateOnAnimation();
+  }
+
   @Override
   protected void onDraw(Canvas canvas) {
     super.onDraw(canvas);
-    canvas.drawCircle(position.x, position.y, 15, paint);
+    synchronized (trail) {
+      // Age points by the time passed since the last sample so the trail fades out even
+      // when samples stop, e.g. while tracking fails
+      long now = lastTimestamp + (SystemClock.uptimeMillis() - lastUptime);
+      if (isTrailEnabled && trail.prepare(now) > 0) {
+        float[] points = trail.getPoints();
+        for (int level = 0; level < GazeTrail.ALPHA_LEVELS; level++) {
+          int count = trail.getLevelCount(level);
+          if (count > 0) {
+            trailPaint.setAlpha((int) (0xFF * GazeTrail.levelAlpha(level)));
+            canvas.drawPoints(points, trail.getLevelOffset(level), count, trailPaint);
+          }
+        }
+        // Keep redrawing until every point has expired
+        postInvalidateOnAnimation();
+      }
+      canvas.drawCircle(position.x, position.y, 15, paint);
+    }
   }
 
 }
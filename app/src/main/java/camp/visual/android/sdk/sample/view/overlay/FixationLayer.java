@@ -0,0 +1,90 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// Circles at the centroid of recent fixations, radius grows with fixation duration
+public class FixationLayer implements OverlayLayer {
+
+  private static final int MAX_FIXATIONS = 8;
+  private static final float MIN_RADIUS = 20f;
+  private static final float MAX_RADIUS = 80f;
+  // Duration at which a fixation circle reaches MAX_RADIUS
+  private static final float MAX_RADIUS_DURATION_MS = 1000f;
+
+  // Finished fixations as (x, y, radius) triples in a circular buffer
+  private final float[] fixations = new float[MAX_FIXATIONS * 3];
+  private int head = 0, size = 0;
+
+  // Running fixation
+  private boolean isFixating = false;
+  private float sumX, sumY;
+  private int sampleCount;
+  private long startTimestamp, lastTimestamp;
+
+  private final Paint pastPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint currentPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+  public FixationLayer() {
+    pastPaint.setColor(Color.argb(0x80, 0x42, 0xA5, 0xF5));
+    pastPaint.setStyle(Paint.Style.STROKE);
+    pastPaint.setStrokeWidth(3f);
+    currentPaint.setColor(Color.rgb(0x42, 0xA5, 0xF5));
+    currentPaint.setStyle(Paint.Style.STROKE);
+    currentPaint.setStrokeWidth(5f);
+  }
+
+  @Override
+  public void onSample(GazeSample sample) {
+    if (sample.isTracking && sample.isFixation) {
+      if (!isFixating) {
+        isFixating = true;
+        sumX = 0;
+        sumY = 0;
+        sampleCount = 0;
+        startTimestamp = sample.timestamp;
+      }
+      sumX += sample.x;
+      sumY += sample.y;
+      sampleCount++;
+      lastTimestamp = sample.timestamp;
+    } else if (isFixating) {
+      isFixating = false;
+      int index = (head + size) % MAX_FIXATIONS;
+      if (size == MAX_FIXATIONS) {
+        head = (head + 1) % MAX_FIXATIONS;
+      } else {
+        size++;
+      }
+      fixations[index * 3] = sumX / sampleCount;
+      fixations[index * 3 + 1] = sumY / sampleCount;
+      fixations[index * 3 + 2] = radiusFor(lastTimestamp - startTimestamp);
+    }
+  }
+
+  @Override
+  public void reset() {
+    head = 0;
+    size = 0;
+    isFixating = false;
+  }
+
+  @Override
+  public void draw(Canvas canvas, GazeSample latest) {
+    for (int i = 0; i < size; i++) {
+      int index = (head + i) % MAX_FIXATIONS;
+      canvas.drawCircle(fixations[index * 3], fixations[index * 3 + 1], fixations[index * 3 + 2],
+          pastPaint);
+    }
+    if (isFixating) {
+      canvas.drawCircle(sumX / sampleCount, sumY / sampleCount,
+          radiusFor(lastTimestamp - startTimestamp), currentPaint);
+    }
+  }
+
+  private static float radiusFor(long durationMs) {
+    float ratio = Math.min(1f, durationMs / MAX_RADIUS_DURATION_MS);
+    return MIN_RADIUS + (MAX_RADIUS - MIN_RADIUS) * ratio;
+  }
+}
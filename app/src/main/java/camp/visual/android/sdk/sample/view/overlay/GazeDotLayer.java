@@ -0,0 +1,33 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// Current gaze point, same look as PointView
+public class GazeDotLayer implements OverlayLayer {
+
+  private static final float RADIUS = 15f;
+
+  private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+  public GazeDotLayer() {
+    paint.setColor(Color.rgb(0x84, 0x5e, 0xc2));
+    paint.setStyle(Paint.Style.FILL);
+  }
+
+  @Override
+  public void onSample(GazeSample sample) {
+  }
+
+  @Override
+  public void reset() {
+  }
+
+  @Override
+  public void draw(Canvas canvas, GazeSample latest) {
+    if (latest.isTracking) {
+      canvas.drawCircle(latest.x, latest.y, RADIUS, paint);
+    }
+  }
+}
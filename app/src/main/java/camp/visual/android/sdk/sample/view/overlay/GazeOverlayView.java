@@ -0,0 +1,268 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Draws every gaze visualization layer in a single pass on a dedicated render thread.
+ * <p>
+ * {@link #publish} may be called directly from the tracking callback thread. Samples are
+ * queued into preallocated arrays and a frame is scheduled on the render thread, so the
+ * main thread does no work for gaze visualization regardless of the tracking rate.
+ */
+public class GazeOverlayView extends SurfaceView implements SurfaceHolder.Callback {
+
+  private static final String TAG = "GazeOverlayView";
+  // Enough to hold every sample between two frames at 120 Hz even when rendering stalls
+  private static final int QUEUE_CAPACITY = 64;
+
+  // Pending samples written by the tracking thread, guarded by lock
+  private final Object lock = new Object();
+  private final long[] pendingTimestamps = new long[QUEUE_CAPACITY];
+  private final float[] pendingX = new float[QUEUE_CAPACITY];
+  private final float[] pendingY = new float[QUEUE_CAPACITY];
+  private final boolean[] pendingTracking = new boolean[QUEUE_CAPACITY];
+  private final boolean[] pendingFixation = new boolean[QUEUE_CAPACITY];
+  private int pendingHead = 0, pendingSize = 0;
+  private boolean isFramePending = false;
+  private Handler renderHandler;
+
+  // Render thread copies of the pending samples, only touched on the render thread
+  private final long[] drainTimestamps = new long[QUEUE_CAPACITY];
+  private final float[] drainX = new float[QUEUE_CAPACITY];
+  private final float[] drainY = new float[QUEUE_CAPACITY];
+  private final boolean[] drainTracking = new boolean[QUEUE_CAPACITY];
+  private final boolean[] drainFixation = new boolean[QUEUE_CAPACITY];
+  private final GazeSample sample = new GazeSample();
+  private final GazeSample latest = new GazeSample();
+
+  // Guards the surface between the render thread and surfaceDestroyed
+  private final Object surfaceLock = new Object();
+  private boolean isSurfaceReady = false;
+
+  private volatile OverlayLayer[] layers = new OverlayLayer[0];
+  private volatile float offsetX, offsetY;
+  private int surfaceWidth, surfaceHeight;
+  private HandlerThread renderThread;
+
+  private final Runnable drawFrame = this::drawFrame;
+  private final Runnable clearFrame = this::clearFrame;
+
+  public GazeOverlayView(Context context) {
+    super(context);
+    init();
+  }
+
+  public GazeOverlayView(Context context, @Nullable AttributeSet attrs) {
+    super(context, attrs);
+    init();
+  }
+
+  public GazeOverlayView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+    super(context, attrs, defStyleAttr);
+    init();
+  }
+
+  private void init() {
+    setZOrderOnTop(true);
+    getHolder().setFormat(PixelFormat.TRANSLUCENT);
+    getHolder().addCallback(this);
+    latest.set(0, -999, -999, false, false);
+  }
+
+  // Layers are drawn in the order they were added
+  public void addLayer(@NonNull OverlayLayer layer) {
+    synchronized (lock) {
+      OverlayLayer[] current = layers;
+      OverlayLayer[] next = new OverlayLayer[current.length + 1];
+      System.arraycopy(current, 0, next, 0, current.length);
+      next[current.length] = layer;
+      layers = next;
+    }
+  }
+
+  public void setOffset(int x, int y) {
+    offsetX = x;
+    offsetY = y;
+  }
+
+  /**
+   * Queues a gaze sample for the next frame. Safe to call from any thread.
+   * When the queue is full the oldest sample is dropped.
+   */
+  public void publish(long timestamp, float x, float y, boolean isTracking, boolean isFixation) {
+    synchronized (lock) {
+      int index;
+      if (pendingSize == QUEUE_CAPACITY) {
+        index = pendingHead;
+        pendingHead = (pendingHead + 1) % QUEUE_CAPACITY;
+      } else {
+        index = (pendingHead + pendingSize) % QUEUE_CAPACITY;
+        pendingSize++;
+      }
+      pendingTimestamps[index] = timestamp;
+      pendingX[index] = x;
+      pendingY[index] = y;
+      pendingTracking[index] = isTracking;
+      pendingFixation[index] = isFixation;
+
+      if (!isFramePending && renderHandler != null) {
+        isFramePending = true;
+        renderHandler.post(drawFrame);
+      }
+    }
+  }
+
+  /**
+   * Drops queued samples, resets every layer and draws one empty frame, e.g. when tracking
+   * stops. Safe to call from any thread.
+   */
+  public void clear() {
+    synchronized (lock) {
+      pendingHead = 0;
+      pendingSize = 0;
+      if (renderHandler != null) {
+        renderHandler.post(clearFrame);
+      }
+    }
+  }
+
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    renderThread = new HandlerThread("overlay-render");
+    renderThread.start();
+    synchronized (lock) {
+      renderHandler = new Handler(renderThread.getLooper());
+    }
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    synchronized (lock) {
+      renderHandler = null;
+      isFramePending = false;
+    }
+    if (renderThread != null) {
+      renderThread.quitSafely();
+      renderThread = null;
+    }
+    super.onDetachedFromWindow();
+  }
+
+  @Override
+  public void surfaceCreated(@NonNull SurfaceHolder holder) {
+    synchronized (surfaceLock) {
+      isSurfaceReady = true;
+    }
+  }
+
+  @Override
+  public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
+    synchronized (surfaceLock) {
+      surfaceWidth = width;
+      surfaceHeight = height;
+    }
+    Handler handler;
+    synchronized (lock) {
+      handler = renderHandler;
+    }
+    if (handler != null) {
+      handler.post(() -> {
+        for (OverlayLayer layer : layers) {
+          layer.onSizeChanged(width, height);
+        }
+        drawFrame();
+      });
+    }
+  }
+
+  @Override
+  public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
+    // Blocks until an in-flight frame finishes so the surface is never used after this returns
+    synchronized (surfaceLock) {
+      isSurfaceReady = false;
+    }
+  }
+
+  // Runs on the render thread
+  private void drawFrame() {
+    int count = drainPending();
+    OverlayLayer[] currentLayers = layers;
+    float ox = offsetX, oy = offsetY;
+
+    for (int i = 0; i < count; i++) {
+      sample.set(drainTimestamps[i], drainX[i] - ox, drainY[i] - oy, drainTracking[i],
+          drainFixation[i]);
+      for (OverlayLayer layer : currentLayers) {
+        layer.onSample(sample);
+      }
+      latest.copyFrom(sample);
+    }
+
+    synchronized (surfaceLock) {
+      if (!isSurfaceReady || surfaceWidth == 0 || surfaceHeight == 0) {
+        return;
+      }
+      SurfaceHolder holder = getHolder();
+      Canvas canvas = null;
+      try {
+        canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+            ? holder.lockHardwareCanvas() : holder.lockCanvas();
+        if (canvas == null) {
+          return;
+        }
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        for (OverlayLayer layer : currentLayers) {
+          layer.draw(canvas, latest);
+        }
+      } catch (IllegalStateException | IllegalArgumentException e) {
+        Log.w(TAG, "drawFrame failed " + e.getMessage());
+      } finally {
+        if (canvas != null) {
+          holder.unlockCanvasAndPost(canvas);
+        }
+      }
+    }
+  }
+
+  // Runs on the render thread
+  private void clearFrame() {
+    for (OverlayLayer layer : layers) {
+      layer.reset();
+    }
+    latest.set(0, -999, -999, false, false);
+    drawFrame();
+  }
+
+  // Moves pending samples to the render thread arrays and returns how many were moved
+  private int drainPending() {
+    synchronized (lock) {
+      int count = pendingSize;
+      for (int i = 0; i < count; i++) {
+        int index = (pendingHead + i) % QUEUE_CAPACITY;
+        drainTimestamps[i] = pendingTimestamps[index];
+        drainX[i] = pendingX[index];
+        drainY[i] = pendingY[index];
+        drainTracking[i] = pendingTracking[index];
+        drainFixation[i] = pendingFixation[index];
+      }
+      pendingHead = 0;
+      pendingSize = 0;
+      isFramePending = false;
+      return count;
+    }
+  }
+}
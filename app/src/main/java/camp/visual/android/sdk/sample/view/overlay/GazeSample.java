@@ -0,0 +1,24 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+/**
+ * Mutable gaze sample handed to {@link OverlayLayer}s on the render thread.
+ * Instances are reused by {@link GazeOverlayView}, so layers must copy what they keep.
+ */
+public final class GazeSample {
+  public long timestamp;
+  public float x, y;
+  public boolean isTracking;
+  public boolean isFixation;
+
+  public void set(long timestamp, float x, float y, boolean isTracking, boolean isFixation) {
+    this.timestamp = timestamp;
+    this.x = x;
+    this.y = y;
+    this.isTracking = isTracking;
+    this.isFixation = isFixation;
+  }
+
+  public void copyFrom(GazeSample other) {
+    set(other.timestamp, other.x, other.y, other.isTracking, other.isFixation);
+  }
+}
@@ -0,0 +1,86 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// Coarse grid heatmap of gaze samples that fades out over time
+public class HeatmapLayer implements OverlayLayer {
+
+  private static final int COLUMNS = 12;
+  private static final int ROWS = 20;
+  private static final float HALF_LIFE_MS = 3000f;
+  // Cell weight drawn with full alpha
+  private static final float SATURATION = 60f;
+  private static final int MAX_ALPHA = 0x90;
+
+  private final float[] cells = new float[COLUMNS * ROWS];
+  private final Paint paint = new Paint();
+  private float cellWidth, cellHeight;
+  private long lastDecayTimestamp = -1;
+
+  public HeatmapLayer() {
+    paint.setColor(Color.rgb(0xEF, 0x53, 0x50));
+    paint.setStyle(Paint.Style.FILL);
+  }
+
+  @Override
+  public void onSizeChanged(int width, int height) {
+    cellWidth = (float) width / COLUMNS;
+    cellHeight = (float) height / ROWS;
+  }
+
+  @Override
+  public void onSample(GazeSample sample) {
+    decay(sample.timestamp);
+    if (!sample.isTracking || cellWidth == 0 || cellHeight == 0) {
+      return;
+    }
+    int column = (int) (sample.x / cellWidth);
+    int row = (int) (sample.y / cellHeight);
+    if (column >= 0 && column < COLUMNS && row >= 0 && row < ROWS) {
+      cells[row * COLUMNS + column] += 1f;
+    }
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = 0f;
+    }
+    lastDecayTimestamp = -1;
+  }
+
+  @Override
+  public void draw(Canvas canvas, GazeSample latest) {
+    for (int row = 0; row < ROWS; row++) {
+      for (int column = 0; column < COLUMNS; column++) {
+        float weight = cells[row * COLUMNS + column];
+        if (weight < 0.5f) {
+          continue;
+        }
+        paint.setAlpha((int) (MAX_ALPHA * Math.min(1f, weight / SATURATION)));
+        float left = column * cellWidth;
+        float top = row * cellHeight;
+        canvas.drawRect(left, top, left + cellWidth, top + cellHeight, paint);
+      }
+    }
+  }
+
+  // Decay by sample time so the fade does not depend on the frame rate
+  private void decay(long timestamp) {
+    if (lastDecayTimestamp < 0 || timestamp < lastDecayTimestamp) {
+      lastDecayTimestamp = timestamp;
+      return;
+    }
+    long elapsed = timestamp - lastDecayTimestamp;
+    if (elapsed == 0) {
+      return;
+    }
+    float factor = (float) Math.pow(0.5, elapsed / HALF_LIFE_MS);
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] *= factor;
+    }
+    lastDecayTimestamp = timestamp;
+  }
+}
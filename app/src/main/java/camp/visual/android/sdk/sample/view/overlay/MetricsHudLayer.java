@@ -0,0 +1,77 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+
+// Debug text showing the gaze sample rate and the overlay frame rate
+public class MetricsHudLayer implements OverlayLayer {
+
+  private static final long WINDOW_MS = 1000;
+  private static final float TEXT_SIZE = 36f;
+  private static final float MARGIN = 24f;
+
+  private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final StringBuilder text = new StringBuilder(64);
+
+  private long sampleWindowStart = -1;
+  private int sampleCount = 0, sampleRate = 0, trackedCount = 0, trackedRate = 0;
+  private long frameWindowStart = -1;
+  private int frameCount = 0, frameRate = 0;
+
+  public MetricsHudLayer() {
+    textPaint.setColor(Color.WHITE);
+    textPaint.setTextSize(TEXT_SIZE);
+    textPaint.setShadowLayer(2f, 1f, 1f, Color.BLACK);
+  }
+
+  @Override
+  public void onSample(GazeSample sample) {
+    if (sampleWindowStart < 0 || sample.timestamp < sampleWindowStart) {
+      sampleWindowStart = sample.timestamp;
+    }
+    if (sample.timestamp - sampleWindowStart >= WINDOW_MS) {
+      sampleRate = sampleCount;
+      trackedRate = trackedCount;
+      sampleCount = 0;
+      trackedCount = 0;
+      sampleWindowStart = sample.timestamp;
+    }
+    sampleCount++;
+    if (sample.isTracking) {
+      trackedCount++;
+    }
+  }
+
+  @Override
+  public void reset() {
+    sampleWindowStart = -1;
+    sampleCount = 0;
+    sampleRate = 0;
+    trackedCount = 0;
+    trackedRate = 0;
+    frameWindowStart = -1;
+    frameCount = 0;
+    frameRate = 0;
+  }
+
+  @Override
+  public void draw(Canvas canvas, GazeSample latest) {
+    long now = SystemClock.uptimeMillis();
+    if (frameWindowStart < 0) {
+      frameWindowStart = now;
+    }
+    if (now - frameWindowStart >= WINDOW_MS) {
+      frameRate = frameCount;
+      frameCount = 0;
+      frameWindowStart = now;
+    }
+    frameCount++;
+
+    text.setLength(0);
+    text.append("gaze ").append(sampleRate).append(" Hz (tracked ").append(trackedRate)
+        .append(")  overlay ").append(frameRate).append(" fps");
+    canvas.drawText(text, 0, text.length(), MARGIN, MARGIN + TEXT_SIZE, textPaint);
+  }
+}
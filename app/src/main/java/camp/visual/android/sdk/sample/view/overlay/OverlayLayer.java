@@ -0,0 +1,24 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+
+/**
+ * A single layer drawn by {@link GazeOverlayView}.
+ * Every method is called on the overlay render thread, never on the main thread,
+ * and must not allocate since it runs once per sample or once per frame.
+ */
+public interface OverlayLayer {
+
+  // Called for every received sample, in arrival order, before the next frame is drawn
+  void onSample(GazeSample sample);
+
+  // Called once per frame with the most recent sample
+  void draw(Canvas canvas, GazeSample latest);
+
+  // Called when the overlay is cleared, drops everything collected from earlier samples
+  void reset();
+
+  // Called when the overlay surface size changes
+  default void onSizeChanged(int width, int height) {
+  }
+}
@@ -0,0 +1,56 @@
+package camp.visual.android.sdk.sample.view.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import camp.visual.android.sdk.sample.view.GazeTrail;
+
+// Fading trail of the tracked gaze points from the last duration of sample time
+public class TrailLayer implements OverlayLayer {
+
+  // Sized for 2 seconds at 120 Hz
+  private static final int DEFAULT_CAPACITY = 240;
+  private static final long DEFAULT_DURATION_MS = 1500;
+  private static final int MAX_ALPHA = 0xC0;
+
+  private final GazeTrail trail;
+  private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+  public TrailLayer() {
+    this(DEFAULT_CAPACITY, DEFAULT_DURATION_MS);
+  }
+
+  public TrailLayer(int capacity, long durationMs) {
+    trail = new GazeTrail(capacity, durationMs);
+    paint.setColor(Color.rgb(0x84, 0x5e, 0xc2));
+    paint.setStrokeWidth(10f);
+    paint.setStrokeCap(Paint.Cap.ROUND);
+  }
+
+  @Override
+  public void onSample(GazeSample sample) {
+    if (sample.isTracking) {
+      trail.add(sample.timestamp, sample.x, sample.y);
+    }
+  }
+
+  @Override
+  public void reset() {
+    trail.clear();
+  }
+
+  @Override
+  public void draw(Canvas canvas, GazeSample latest) {
+    if (trail.prepare(latest.timestamp) == 0) {
+      return;
+    }
+    float[] points = trail.getPoints();
+    for (int level = 0; level < GazeTrail.ALPHA_LEVELS; level++) {
+      int count = trail.getLevelCount(level);
+      if (count > 0) {
+        paint.setAlpha((int) (MAX_ALPHA * GazeTrail.levelAlpha(level)));
+        canvas.drawPoints(points, trail.getLevelOffset(level), count, paint);
+      }
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package camp.visual.android.sdk.sample.session;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import camp.visual.android.sdk.sample.session.ProfileSessionManager.SwitchResult;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProfileSessionManagerTest {
+
+  private double[] appliedData;
+  private int applyCount;
+  private boolean acceptCalibration;
+  private long now;
+  private ProfileSessionManager manager;
+
+  @Before
+  public void setUp() {
+    appliedData = null;
+    applyCount = 0;
+    acceptCalibration = true;
+    now = 0;
+    manager = new ProfileSessionManager(2, data -> {
+      appliedData = data;
+      applyCount++;
+      return acceptCalibration;
+    }, () -> now);
+  }
+
+  @Test
+  public void switchTo_newUserNeedsCalibration() {
+    assertEquals(SwitchResult.NEEDS_CALIBRATION, manager.switchTo("a"));
+    assertEquals("a", manager.getActiveProfile().getUserId());
+    assertEquals(0, applyCount);
+  }
+
+  @Test
+  public void switchTo_restoresSavedCalibration() {
+    manager.switchTo("a");
+    assertTrue(manager.saveCalibration(new double[]{1, 2, 3}));
+    manager.switchTo("b");
+
+    assertEquals(SwitchResult.RESTORED, manager.switchTo("a"));
+    assertArrayEquals(new double[]{1, 2, 3}, appliedData, 0);
+    assertEquals(1, applyCount);
+  }
+
+  @Test
+  public void switchTo_reportsRejectedCalibration() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1});
+    acceptCalibration = false;
+
+    assertEquals(SwitchResult.APPLY_FAILED, manager.switchTo("a"));
+  }
+
+  @Test
+  public void saveCalibration_storesCopy() {
+    manager.switchTo("a");
+    double[] data = {1, 2};
+    manager.saveCalibration(data);
+    data[0] = 9;
+
+    assertArrayEquals(new double[]{1, 2}, manager.getActiveProfile().getCalibrationData(), 0);
+  }
+
+  @Test
+  public void saveCalibration_failsWithoutActiveProfile() {
+    assertFalse(manager.saveCalibration(new double[]{1}));
+  }
+
+  @Test
+  public void switchTo_evictsLeastRecentlyUsedProfile() {
+    switchAndCalibrate(manager, "a");
+    switchAndCalibrate(manager, "b");
+    switchAndCalibrate(manager, "a");
+    switchAndCalibrate(manager, "c");
+
+    assertEquals(2, manager.getProfileCount());
+    assertNotNull(manager.peekProfile("a"));
+    assertNull(manager.peekProfile("b"));
+    assertNotNull(manager.peekProfile("c"));
+  }
+
+  @Test
+  public void peekProfile_doesNotChangeEvictionOrder() {
+    switchAndCalibrate(manager, "a");
+    switchAndCalibrate(manager, "b");
+    manager.peekProfile("a");
+    switchAndCalibrate(manager, "c");
+
+    assertNull(manager.peekProfile("a"));
+    assertNotNull(manager.peekProfile("b"));
+  }
+
+  @Test
+  public void switchTo_neverEvictsActiveProfile() {
+    ProfileSessionManager single = new ProfileSessionManager(1, data -> true, () -> 0);
+    switchAndCalibrate(single, "a");
+    switchAndCalibrate(single, "b");
+    single.switchTo("b");
+
+    assertEquals(1, single.getProfileCount());
+    assertSame(single.peekProfile("b"), single.getActiveProfile());
+  }
+
+  @Test
+  public void switchTo_uncalibratedUserKeepsPreviousProfileActive() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1, 2});
+    applyCount = 0;
+
+    assertEquals(SwitchResult.NEEDS_CALIBRATION, manager.switchTo("b"));
+    assertEquals("a", manager.getActiveProfile().getUserId());
+    assertEquals("b", manager.getPendingProfile().getUserId());
+    assertEquals(0, applyCount);
+  }
+
+  @Test
+  public void saveCalibration_completesPendingSwitch() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1});
+    manager.switchTo("b");
+
+    assertTrue(manager.saveCalibration(new double[]{2}));
+    assertEquals("b", manager.getActiveProfile().getUserId());
+    assertNull(manager.getPendingProfile());
+    assertArrayEquals(new double[]{1}, manager.peekProfile("a").getCalibrationData(), 0);
+    assertArrayEquals(new double[]{2}, manager.peekProfile("b").getCalibrationData(), 0);
+  }
+
+  @Test
+  public void cancelCalibration_restoresPreviousProfile() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1, 2});
+    manager.switchTo("b");
+
+    assertEquals(SwitchResult.RESTORED, manager.cancelCalibration());
+    assertEquals("a", manager.getActiveProfile().getUserId());
+    assertNull(manager.getPendingProfile());
+    assertArrayEquals(new double[]{1, 2}, appliedData, 0);
+    assertNull(manager.peekProfile("b").getCalibrationData());
+  }
+
+  @Test
+  public void cancelCalibration_reportsRejectedCalibration() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1});
+    manager.switchTo("b");
+    acceptCalibration = false;
+
+    assertEquals(SwitchResult.APPLY_FAILED, manager.cancelCalibration());
+    assertNull(manager.getPendingProfile());
+  }
+
+  @Test
+  public void cancelCalibration_withoutActiveCalibrationNeedsCalibration() {
+    manager.switchTo("a");
+
+    assertEquals(SwitchResult.NEEDS_CALIBRATION, manager.cancelCalibration());
+    assertEquals(0, applyCount);
+  }
+
+  @Test
+  public void calibrationTarget_isCalledOutsideManagerLock() {
+    boolean[] heldLock = new boolean[1];
+    ProfileSessionManager[] holder = new ProfileSessionManager[1];
+    holder[0] = new ProfileSessionManager(2, data -> {
+      heldLock[0] |= Thread.holdsLock(holder[0]);
+      return true;
+    }, () -> 0);
+    holder[0].switchTo("a");
+    holder[0].saveCalibration(new double[]{1});
+    holder[0].switchTo("a");
+    holder[0].cancelCalibration();
+
+    assertFalse(heldLock[0]);
+  }
+
+  @Test
+  public void switchTo_rejectedCalibrationKeepsPreviousProfileActive() {
+    manager.switchTo("b");
+    manager.saveCalibration(new double[]{2});
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1});
+    acceptCalibration = false;
+
+    assertEquals(SwitchResult.APPLY_FAILED, manager.switchTo("b"));
+    assertEquals("a", manager.getActiveProfile().getUserId());
+  }
+
+  @Test
+  public void switchTo_neverEvictsPendingProfile() {
+    ProfileSessionManager single = new ProfileSessionManager(1, data -> true, () -> 0);
+    single.switchTo("a");
+    single.saveCalibration(new double[]{1});
+    single.switchTo("b");
+
+    assertNotNull(single.peekProfile("a"));
+    assertNotNull(single.peekProfile("b"));
+  }
+
+  @Test
+  public void switchTo_recordsLatency() {
+    ProfileSessionManager timed = new ProfileSessionManager(2, data -> {
+      now += 300;
+      return true;
+    }, () -> now);
+    timed.switchTo("a");
+    timed.saveCalibration(new double[]{1});
+    timed.switchTo("a");
+
+    assertEquals(1, timed.getSwitchCount());
+    assertEquals(300, timed.getLastSwitchNanos());
+    assertEquals(300, timed.getMaxSwitchNanos());
+    assertEquals(300, timed.getAverageSwitchNanos());
+  }
+
+  @Test
+  public void switchTo_recordsOnlyRestoredSwitches() {
+    manager.switchTo("a");
+    manager.saveCalibration(new double[]{1});
+    manager.switchTo("a");
+    now = 500;
+
+    assertEquals(SwitchResult.NEEDS_CALIBRATION, manager.switchTo("b"));
+    acceptCalibration = false;
+    assertEquals(SwitchResult.APPLY_FAILED, manager.switchTo("a"));
+
+    assertEquals(1, manager.getSwitchCount());
+    assertEquals(0, manager.getLastSwitchNanos());
+    assertEquals(0, manager.getMaxSwitchNanos());
+  }
+
+  private static void switchAndCalibrate(ProfileSessionManager manager, String userId) {
+    manager.switchTo(userId);
+    manager.saveCalibration(new double[]{userId.hashCode()});
+  }
+}
@@ -0,0 +1,112 @@
+package camp.visual.android.sdk.sample.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.junit.Test;
+
+public class GazeTrailTest {
+
+  @Test
+  public void prepare_laysOutPointsOldestFirst() {
+    GazeTrail trail = new GazeTrail(8, 1000);
+    trail.add(0, 1, 2);
+    trail.add(10, 3, 4);
+    trail.add(20, 5, 6);
+
+    assertEquals(3, trail.prepare(20));
+    float[] points = trail.getPoints();
+    assertEquals(1, points[0], 0);
+    assertEquals(2, points[1], 0);
+    assertEquals(5, points[4], 0);
+    assertEquals(6, points[5], 0);
+  }
+
+  @Test
+  public void add_overwritesOldestWhenFull() {
+    GazeTrail trail = new GazeTrail(3, 1000);
+    for (int i = 0; i < 5; i++) {
+      trail.add(i, i, i);
+    }
+
+    assertEquals(3, trail.prepare(4));
+    assertEquals(2, trail.getPoints()[0], 0);
+    assertEquals(4, trail.getPoints()[4], 0);
+  }
+
+  @Test
+  public void prepare_dropsExpiredPoints() {
+    GazeTrail trail = new GazeTrail(8, 100);
+    trail.add(0, 0, 0);
+    trail.add(50, 1, 1);
+    trail.add(120, 2, 2);
+
+    assertEquals(2, trail.prepare(120));
+    assertEquals(1, trail.getPoints()[0], 0);
+    assertEquals(0, trail.prepare(1000));
+  }
+
+  @Test
+  public void prepare_groupsPointsIntoContiguousAlphaLevels() {
+    GazeTrail trail = new GazeTrail(16, 400);
+    // Ages 350, 250, 150, 50 and 0 map to levels 0, 1, 2, 3 and 3
+    trail.add(0, 0, 0);
+    trail.add(100, 1, 1);
+    trail.add(200, 2, 2);
+    trail.add(300, 3, 3);
+    trail.add(350, 4, 4);
+
+    assertEquals(5, trail.prepare(350));
+    assertEquals(0, trail.getLevelOffset(0));
+    assertEquals(2, trail.getLevelCount(0));
+    assertEquals(2, trail.getLevelOffset(1));
+    assertEquals(2, trail.getLevelCount(1));
+    assertEquals(4, trail.getLevelOffset(2));
+    assertEquals(2, trail.getLevelCount(2));
+    assertEquals(6, trail.getLevelOffset(3));
+    assertEquals(4, trail.getLevelCount(3));
+
+    int total = 0;
+    for (int level = 0; level < GazeTrail.ALPHA_LEVELS; level++) {
+      total += trail.getLevelCount(level);
+    }
+    assertEquals(10, total);
+  }
+
+  @Test
+  public void addAndPrepare_doNotAllocate() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    GazeTrail trail = new GazeTrail(240, 2000);
+    long threadId = Thread.currentThread().getId();
+    runFrames(trail, 0, 10_000); // warm up so JIT and class loading are out of the measurement
+
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    int laidOut = runFrames(trail, 10_000, 100_000);
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+    assertTrue(laidOut > 0);
+    // Small slack for the allocation counter itself
+    assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+  }
+
+  // Simulates a 120 Hz stream drawn every other sample
+  private static int runFrames(GazeTrail trail, int from, int to) {
+    int laidOut = 0;
+    for (int i = from; i < to; i++) {
+      long timestamp = i * 8L;
+      trail.add(timestamp, i % 1080, i % 1920);
+      if ((i & 1) == 0) {
+        laidOut += trail.prepare(timestamp);
+      }
+    }
+    return laidOut;
+  }
+}